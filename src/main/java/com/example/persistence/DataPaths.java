@@ -0,0 +1,22 @@
+package com.example.persistence;
+
+import java.io.File;
+
+public class DataPaths {
+  // Overridable so tools like the soak test can work on a scratch copy
+  // instead of the bundled sample data.
+  public static final String ROOT_PROPERTY = "btodo.data.dir";
+  private static final String DEFAULT_ROOT = "src/main/resources/data";
+
+  public static String root() {
+    return System.getProperty(ROOT_PROPERTY, DEFAULT_ROOT);
+  }
+
+  public static File taskFile(int userId) {
+    return new File(root() + "/tasks/" + userId + ".json");
+  }
+
+  public static File userFile(int userId) {
+    return new File(root() + "/users/" + userId + ".json");
+  }
+}
@@ -14,7 +14,7 @@ public class TaskRepository {
 
   public static LinkedList<Task> load(int userId) {
     try {
-      File file = new File("src/main/resources/data/tasks/" + userId + ".json");
+      File file = DataPaths.taskFile(userId);
       return m.readValue(file, new TypeReference<LinkedList<Task>>() {
       });
 
@@ -26,7 +26,7 @@ public class TaskRepository {
 
   public static void save(LinkedList<Task> tasks, int userId) {
     try {
-      File file = new File("src/main/resources/data/tasks/" + userId + ".json");
+      File file = DataPaths.taskFile(userId);
       // Ensure the directory exists
       file.getParentFile().mkdirs();
       m.writerWithDefaultPrettyPrinter().writeValue(file, tasks);
@@ -14,7 +14,7 @@ public class UserRepository {
 
   public static LinkedList<User> loadUser(int userId) {
     try {
-      File file = new File("src/main/resources/data/users/" + userId + ".json");
+      File file = DataPaths.userFile(userId);
       return m.readValue(file, new TypeReference<LinkedList<User>>() {
       });
     } catch (IOException e) {
@@ -25,7 +25,7 @@ public class UserRepository {
 
   public static void saveUser(LinkedList<User> users, int userId) {
     try {
-      File file = new File("src/main/resources/data/users/" + userId + ".json");
+      File file = DataPaths.userFile(userId);
       // Ensure the directory exists
       file.getParentFile().mkdirs();
       m.writerWithDefaultPrettyPrinter().writeValue(file, users);
@@ -0,0 +1,79 @@
+package com.example.workload;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Records individual GC pauses from the JVM's collection notifications.
+ *
+ * The JVM reports durations in whole milliseconds. Beans that describe
+ * concurrent cycles rather than stop-the-world pauses (G1 Concurrent GC,
+ * ZGC/Shenandoah Cycles) are skipped so their long run times don't show up
+ * as pauses.
+ */
+public class GcPauseMonitor implements NotificationListener {
+  private final List<NotificationEmitter> emitters = new ArrayList<>();
+  private final LatencyHistogram pauses = new LatencyHistogram();
+  private long totalMillis;
+
+  public void start() {
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (gc instanceof NotificationEmitter) {
+        NotificationEmitter emitter = (NotificationEmitter) gc;
+        emitter.addNotificationListener(this, null, null);
+        emitters.add(emitter);
+      }
+    }
+  }
+
+  public void stop() {
+    for (NotificationEmitter emitter : emitters) {
+      try {
+        emitter.removeNotificationListener(this);
+      } catch (ListenerNotFoundException e) {
+        // Already gone, nothing to undo.
+      }
+    }
+    emitters.clear();
+  }
+
+  @Override
+  public void handleNotification(Notification notification, Object handback) {
+    if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+      return;
+    }
+    GarbageCollectionNotificationInfo info =
+        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+    String name = info.getGcName();
+    if (name.contains("Concurrent") || name.contains("Cycles")) {
+      return;
+    }
+    long millis = info.getGcInfo().getDuration();
+    synchronized (this) {
+      pauses.record(millis * 1_000_000L);
+      totalMillis += millis;
+    }
+  }
+
+  /**
+   * @return a snapshot of the pause durations seen so far, in nanoseconds
+   */
+  public synchronized LatencyHistogram pauses() {
+    LatencyHistogram copy = new LatencyHistogram();
+    copy.merge(pauses);
+    return copy;
+  }
+
+  public synchronized long totalMillis() {
+    return totalMillis;
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.workload;
+
+/**
+ * Fixed-size log-linear histogram of latencies in nanoseconds.
+ *
+ * Each power of two is split into 16 linear sub-buckets, so any recorded
+ * value is reported to within ~6% while memory stays constant no matter how
+ * long the soak runs. Not thread-safe: give each worker its own and merge.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final long[] counts = new long[BUCKETS];
+  private long total;
+  private long max;
+
+  public void record(long nanos) {
+    if (nanos < 0) {
+      nanos = 0;
+    }
+    counts[index(nanos)]++;
+    total++;
+    max = Math.max(max, nanos);
+  }
+
+  public void merge(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] += other.counts[i];
+    }
+    total += other.total;
+    max = Math.max(max, other.max);
+  }
+
+  public long count() {
+    return total;
+  }
+
+  public long max() {
+    return max;
+  }
+
+  /**
+   * @param percentile value between 0 and 100
+   * @return the upper bound of the bucket holding that percentile, in nanoseconds
+   */
+  public long percentile(double percentile) {
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(total * percentile / 100.0);
+    rank = Math.max(1, Math.min(rank, total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(upperBound(i), max);
+      }
+    }
+    return max;
+  }
+
+  private static int index(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    int sub = (int) (value >>> exponent) & (SUB_BUCKETS - 1);
+    return (exponent + 1) * SUB_BUCKETS + sub;
+  }
+
+  private static long upperBound(int index) {
+    int exponent = index / SUB_BUCKETS - 1;
+    int sub = index % SUB_BUCKETS;
+    if (exponent < 0) {
+      return sub;
+    }
+    return ((long) (SUB_BUCKETS + sub + 1) << exponent) - 1;
+  }
+}
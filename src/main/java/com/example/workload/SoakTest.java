@@ -0,0 +1,447 @@
+package com.example.workload;
+
+import com.example.model.Task;
+import com.example.model.User;
+import com.example.persistence.DataPaths;
+import com.example.persistence.TaskRepository;
+import com.example.persistence.UserRepository;
+import com.example.util.SecurityUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Soak test for the data layer.
+ *
+ * Generates a synthetic data set with {@link WorkloadGenerator}, then drives a
+ * mix of logins, loads, edits and saves from several threads for a fixed
+ * duration and reports throughput, latency percentiles, GC activity and bytes
+ * written to disk.
+ *
+ * Runs work on a fresh scratch directory (never the bundled sample data) and
+ * everything random is derived from --seed, so results from two runs with the
+ * same arguments on the same machine can be compared directly.
+ *
+ * Usage (all arguments optional):
+ *   --users=100 --tasks=50 --threads=4 --warmup=10 --duration=60 --seed=42
+ *   --mix=login:10,load:40,edit:35,save:15 --dir=/path/to/scratch
+ *
+ * Launch from the project root with:
+ *   mvn compile exec:exec -Dsoak.args="--users=1000 --duration=120"
+ * or, to pass JVM flags such as heap size, run it directly on the classpath:
+ *   mvn dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -Xmx512m -cp target/classes:$(cat cp.txt) com.example.workload.SoakTest --users=1000
+ */
+public class SoakTest {
+
+  enum Op {
+    LOGIN, LOAD, EDIT, SAVE
+  }
+
+  // lastModified() also returns 0 for a missing file, which should fail too.
+  private static final long STALE_MTIME = 0L;
+
+  // Shared with the cleanup hook, which may run while main is still starting threads.
+  private static final List<Thread> POOL = new CopyOnWriteArrayList<>();
+
+  private static volatile boolean measuring;
+  private static volatile boolean running = true;
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = parseArgs(args);
+    int users = Integer.parseInt(options.getOrDefault("users", "100"));
+    int tasks = Integer.parseInt(options.getOrDefault("tasks", "50"));
+    int threads = Integer.parseInt(options.getOrDefault("threads", "4"));
+    int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+    int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+    long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+    int[] mix = parseMix(options.getOrDefault("mix", "login:10,load:40,edit:35,save:15"));
+
+    if (threads < 1 || users < threads) {
+      throw new IllegalArgumentException("Need at least one thread and at least one user per thread");
+    }
+    if (tasks < 0) {
+      throw new IllegalArgumentException("--tasks must not be negative, got " + tasks);
+    }
+    if (warmup < 0) {
+      throw new IllegalArgumentException("--warmup must not be negative, got " + warmup);
+    }
+    if (duration <= 0) {
+      throw new IllegalArgumentException("--duration must be positive, got " + duration);
+    }
+
+    String dir = options.get("dir");
+    if (dir == null) {
+      // A scratch copy we made ourselves is removed on exit, including Ctrl-C.
+      // Workers are stopped first, otherwise their saves recreate files
+      // underneath the delete.
+      Path scratch = Files.createTempDirectory("btodo-soak");
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        running = false;
+        joinAll();
+        deleteTree(scratch);
+      }));
+      dir = scratch.toString();
+    }
+    System.setProperty(DataPaths.ROOT_PROPERTY, dir);
+
+    System.out.println("=== btodo soak test ===");
+    System.out.println("java=" + System.getProperty("java.version")
+        + " cpus=" + Runtime.getRuntime().availableProcessors()
+        + " maxHeapMB=" + Runtime.getRuntime().maxMemory() / (1024 * 1024));
+    // Repeated in the RESULT line so two results can only look comparable
+    // if they came from the same configuration.
+    String config = "users=" + users + " tasks=" + tasks + " threads=" + threads
+        + " warmup_s=" + warmup + " duration_s=" + duration + " seed=" + seed
+        + " mix=" + formatMix(mix) + " java=" + System.getProperty("java.version");
+    System.out.println(config);
+    System.out.println("data dir: " + dir);
+
+    // Every consumer of randomness gets its own seed derived from --seed, so
+    // the streams stay independent but the whole run is reproducible.
+    SplittableRandom seeds = new SplittableRandom(seed);
+
+    long genStart = System.nanoTime();
+    List<WorkloadGenerator.Account> accounts = new WorkloadGenerator(seeds.nextLong()).generate(users, tasks);
+    System.out.printf("generated %d users in %.1f ms%n", accounts.size(),
+        (System.nanoTime() - genStart) / 1e6);
+
+    // Each worker owns a disjoint slice of users. The repositories do no
+    // locking, so two threads saving the same file would corrupt it.
+    List<Worker> workers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      List<WorkloadGenerator.Account> slice = new ArrayList<>();
+      for (int u = i; u < accounts.size(); u += threads) {
+        slice.add(accounts.get(u));
+      }
+      workers.add(new Worker(slice, mix, seeds.nextLong(), seeds.nextLong()));
+    }
+
+    for (int i = 0; i < workers.size(); i++) {
+      Thread t = new Thread(workers.get(i), "soak-" + i);
+      POOL.add(t);
+      t.start();
+    }
+
+    Thread.sleep(warmup * 1000L);
+    GcPauseMonitor gc = new GcPauseMonitor();
+    gc.start();
+    long start = System.nanoTime();
+    measuring = true;
+
+    Thread.sleep(duration * 1000L);
+    measuring = false;
+    long elapsed = System.nanoTime() - start;
+    gc.stop();
+
+    running = false;
+    joinAll();
+
+    boolean valid = true;
+    for (int i = 0; i < workers.size(); i++) {
+      Throwable failure = workers.get(i).failure;
+      if (failure != null) {
+        valid = false;
+        System.err.println("WARNING: worker soak-" + i + " died, results are not comparable:");
+        failure.printStackTrace();
+      }
+    }
+
+    report(workers, elapsed, gc, valid, config);
+  }
+
+  static class Worker implements Runnable {
+    private final List<WorkloadGenerator.Account> accounts;
+    private final int[] mix;
+    private final Random random;
+    private final WorkloadGenerator generator;
+    private final Map<Integer, LinkedList<Task>> cache = new HashMap<>();
+    private final Map<Op, LatencyHistogram> latencies = new EnumMap<>(Op.class);
+    private final long[] errors = new long[Op.values().length];
+    private long bytesWritten;
+    private boolean reportedException;
+    private volatile Throwable failure;
+
+    Worker(List<WorkloadGenerator.Account> accounts, int[] mix, long opSeed, long editSeed) {
+      this.accounts = accounts;
+      this.mix = mix;
+      this.random = new Random(opSeed);
+      this.generator = new WorkloadGenerator(editSeed);
+      for (Op op : Op.values()) {
+        latencies.put(op, new LatencyHistogram());
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (running) {
+          runOnce();
+        }
+      } catch (Throwable t) {
+        // Anything that gets here (OOM and friends) means this worker stopped
+        // early; main checks this after join and marks the run invalid.
+        failure = t;
+      }
+    }
+
+    private void runOnce() {
+      Op op = nextOp();
+      WorkloadGenerator.Account account = accounts.get(random.nextInt(accounts.size()));
+      boolean record = measuring;
+
+      // TaskRepository.save swallows IOExceptions. Back-date the file before
+      // the timed region so a save that never wrote it shows up as an error
+      // instead of counting the old file as bytes written.
+      File saved = null;
+      if (op == Op.SAVE) {
+        saved = DataPaths.taskFile(account.userId);
+        saved.setLastModified(STALE_MTIME);
+      }
+
+      long start = System.nanoTime();
+      long written;
+      boolean ok;
+      try {
+        written = execute(op, account);
+        ok = written >= 0;
+      } catch (RuntimeException e) {
+        if (!reportedException) {
+          reportedException = true;
+          System.err.println(Thread.currentThread().getName() + ": " + op + " failed");
+          e.printStackTrace();
+        }
+        written = 0;
+        ok = false;
+      }
+      long took = System.nanoTime() - start;
+
+      if (ok && saved != null) {
+        if (saved.lastModified() == STALE_MTIME) {
+          ok = false;
+        } else {
+          written = saved.length();
+        }
+      }
+
+      if (record) {
+        latencies.get(op).record(took);
+        if (ok) {
+          bytesWritten += written;
+        } else {
+          errors[op.ordinal()]++;
+        }
+      }
+    }
+
+    /**
+     * @return 0 on success, -1 if the operation failed
+     */
+    private long execute(Op op, WorkloadGenerator.Account account) {
+      switch (op) {
+        case LOGIN:
+          LinkedList<User> found = UserRepository.loadUser(account.userId);
+          boolean ok = !found.isEmpty()
+              && SecurityUtil.verifyPassword(account.password, found.get(0).getPassword());
+          return ok ? 0 : -1;
+        case LOAD:
+          cache.put(account.userId, TaskRepository.load(account.userId));
+          return 0;
+        case EDIT:
+          // Edits happen in memory, like in the UI; a later SAVE persists them.
+          LinkedList<Task> list = tasksFor(account);
+          if (!list.isEmpty()) {
+            generator.touch(list.get(random.nextInt(list.size())));
+          }
+          return 0;
+        case SAVE:
+          TaskRepository.save(tasksFor(account), account.userId);
+          return 0;
+        default:
+          throw new IllegalStateException("Unknown op " + op);
+      }
+    }
+
+    private LinkedList<Task> tasksFor(WorkloadGenerator.Account account) {
+      return cache.computeIfAbsent(account.userId, TaskRepository::load);
+    }
+
+    private Op nextOp() {
+      int r = random.nextInt(100);
+      for (int i = 0; i < mix.length; i++) {
+        r -= mix[i];
+        if (r < 0) {
+          return Op.values()[i];
+        }
+      }
+      return Op.SAVE;
+    }
+  }
+
+  private static void report(List<Worker> workers, long elapsedNanos, GcPauseMonitor gc,
+      boolean valid, String config) {
+    double seconds = elapsedNanos / 1e9;
+    LatencyHistogram all = new LatencyHistogram();
+    long bytes = 0;
+    long errors = 0;
+    // Total percentiles mostly reflect the mix, so the RESULT line carries
+    // per-op numbers too.
+    StringBuilder perOp = new StringBuilder();
+
+    System.out.println();
+    System.out.printf("%-6s %10s %10s %10s %10s %10s %10s %10s %10s%n",
+        "op", "count", "ops/s", "errors", "p50(us)", "p90(us)", "p99(us)", "p99.9(us)", "max(us)");
+    for (Op op : Op.values()) {
+      LatencyHistogram merged = new LatencyHistogram();
+      long opErrors = 0;
+      for (Worker w : workers) {
+        merged.merge(w.latencies.get(op));
+        opErrors += w.errors[op.ordinal()];
+      }
+      all.merge(merged);
+      errors += opErrors;
+      String name = op.name().toLowerCase();
+      printRow(name, merged, opErrors, seconds);
+      perOp.append(String.format(" %s_ops=%d %s_p50_us=%d %s_p99_us=%d %s_errors=%d",
+          name, merged.count(), name, micros(merged.percentile(50)), name, micros(merged.percentile(99)),
+          name, opErrors));
+    }
+    printRow("total", all, errors, seconds);
+
+    for (Worker w : workers) {
+      bytes += w.bytesWritten;
+    }
+
+    System.out.println();
+    System.out.printf("elapsed:        %.1f s%n", seconds);
+    System.out.printf("throughput:     %.1f ops/s%n", all.count() / seconds);
+    LatencyHistogram pauses = gc.pauses();
+    System.out.printf("gc pauses:      %d pauses, %d ms total, p50 %d ms, p99 %d ms, max %d ms%n",
+        pauses.count(), gc.totalMillis(), millis(pauses.percentile(50)), millis(pauses.percentile(99)),
+        millis(pauses.max()));
+    System.out.printf("disk written:   %.2f MB (%.2f MB/s)%n", bytes / 1e6, bytes / 1e6 / seconds);
+    System.out.println("errors:         " + errors);
+    if (!valid) {
+      System.out.println("INVALID RUN: at least one worker died during the test");
+    }
+
+    // Single line that is easy to grep out and diff between runs.
+    System.out.printf("RESULT valid=%b %s ops=%d ops_per_s=%.1f p50_us=%d p99_us=%d p999_us=%d "
+        + "gc_pauses=%d gc_ms=%d gc_p99_ms=%d gc_max_ms=%d bytes_written=%d errors=%d%s%n",
+        valid, config, all.count(), all.count() / seconds, micros(all.percentile(50)), micros(all.percentile(99)),
+        micros(all.percentile(99.9)), pauses.count(), gc.totalMillis(), millis(pauses.percentile(99)),
+        millis(pauses.max()), bytes, errors, perOp);
+  }
+
+  private static String formatMix(int[] mix) {
+    StringBuilder sb = new StringBuilder();
+    for (Op op : Op.values()) {
+      if (sb.length() > 0) {
+        sb.append(',');
+      }
+      sb.append(op.name().toLowerCase()).append(':').append(mix[op.ordinal()]);
+    }
+    return sb.toString();
+  }
+
+  private static void printRow(String name, LatencyHistogram h, long errors, double seconds) {
+    System.out.printf("%-6s %10d %10.1f %10d %10d %10d %10d %10d %10d%n",
+        name, h.count(), h.count() / seconds, errors,
+        micros(h.percentile(50)), micros(h.percentile(90)), micros(h.percentile(99)),
+        micros(h.percentile(99.9)), micros(h.max()));
+  }
+
+  private static long micros(long nanos) {
+    return nanos / 1000;
+  }
+
+  private static long millis(long nanos) {
+    return nanos / 1_000_000;
+  }
+
+  private static void joinAll() {
+    for (Thread t : POOL) {
+      try {
+        t.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private static void deleteTree(Path root) {
+    try (Stream<Path> paths = Files.walk(root)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    } catch (IOException e) {
+      System.err.println("Could not clean up " + root + ": " + e.getMessage());
+    }
+  }
+
+  private static Map<String, String> parseArgs(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    // exec:exec passes -Dsoak.args through as one (possibly empty) argument.
+    List<String> tokens = new ArrayList<>();
+    for (String arg : args) {
+      for (String token : arg.trim().split("\\s+")) {
+        if (!token.isEmpty()) {
+          tokens.add(token);
+        }
+      }
+    }
+    for (String arg : tokens) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+      }
+      int eq = arg.indexOf('=');
+      options.put(arg.substring(2, eq), arg.substring(eq + 1));
+    }
+    return options;
+  }
+
+  private static int[] parseMix(String spec) {
+    int[] mix = new int[Op.values().length];
+    Set<Op> seen = EnumSet.noneOf(Op.class);
+    int total = 0;
+    for (String part : spec.split(",")) {
+      String[] kv = part.split(":");
+      if (kv.length != 2) {
+        throw new IllegalArgumentException("Bad mix entry: " + part);
+      }
+      Op op;
+      try {
+        op = Op.valueOf(kv[0].trim().toUpperCase());
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Unknown op in mix: " + kv[0].trim());
+      }
+      if (!seen.add(op)) {
+        throw new IllegalArgumentException("Op listed twice in mix: " + kv[0].trim());
+      }
+      int weight = Integer.parseInt(kv[1].trim());
+      if (weight < 0) {
+        throw new IllegalArgumentException("Mix weight must not be negative: " + part);
+      }
+      mix[op.ordinal()] = weight;
+      total += weight;
+    }
+    if (total != 100) {
+      throw new IllegalArgumentException("Mix weights must add up to 100, got " + total);
+    }
+    return mix;
+  }
+}
@@ -0,0 +1,189 @@
+package com.example.workload;
+
+import com.example.model.Task;
+import com.example.model.User;
+import com.example.persistence.TaskRepository;
+import com.example.persistence.UserRepository;
+import com.example.util.SecurityUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates a synthetic data set of N users x M tasks and writes it through
+ * the regular repositories.
+ *
+ * Everything that shapes the load (titles, tags, priorities, due dates) is
+ * drawn from a seeded Random, so two runs with the same seed produce files
+ * of the same size and shape. Only the UUIDs differ, since the model assigns
+ * those itself.
+ */
+public class WorkloadGenerator {
+
+  private static final String[] VERBS = {
+      "Fix", "Write", "Review", "Plan", "Refactor", "Call", "Update", "Prepare", "Clean", "Book"
+  };
+  private static final String[] NOUNS = {
+      "report", "login page", "budget", "meeting notes", "backlog", "invoice",
+      "release", "dentist appointment", "groceries", "presentation"
+  };
+  // Ordered from most to least popular; picked with a Zipf-like skew.
+  private static final String[] TAGS = {
+      "work", "personal", "urgent", "home", "shopping", "health",
+      "finance", "study", "errand", "someday", "travel", "family"
+  };
+  private static final String[] STATUSES = { "todo", "in-progress", "done" };
+
+  private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+  private final Random random;
+
+  public WorkloadGenerator(long seed) {
+    this.random = new Random(seed);
+  }
+
+  /**
+   * A generated account: the id used for file names plus the plain password
+   * needed to drive logins later on.
+   */
+  public static class Account {
+    final int userId;
+    final String password;
+
+    Account(int userId, String password) {
+      this.userId = userId;
+      this.password = password;
+    }
+  }
+
+  public List<Account> generate(int users, int tasksPerUser) {
+    List<Account> accounts = new ArrayList<>(users);
+    Set<Integer> usedIds = new HashSet<>();
+    for (int i = 0; i < users; i++) {
+      String username = "user" + i;
+      String password = "password-" + i;
+      User user = new User(username, SecurityUtil.hashPassword(password));
+      // Files are keyed by the UUID's 32-bit hashCode, which collides at a
+      // few tens of thousands of users. Two accounts sharing a file would
+      // break logins and let two workers write it at once, so re-roll.
+      while (!usedIds.add(user.getId().hashCode())) {
+        user = new User(username, user.getPassword());
+      }
+
+      int count = randomTaskCount(tasksPerUser);
+      LinkedList<Task> tasks = new LinkedList<>();
+      for (int t = 0; t < count; t++) {
+        tasks.add(newTask());
+      }
+      user.setTasks(tasks);
+
+      int userId = user.getId().hashCode();
+      LinkedList<User> wrapper = new LinkedList<>();
+      wrapper.add(user);
+      UserRepository.saveUser(wrapper, userId);
+      TaskRepository.save(tasks, userId);
+      accounts.add(new Account(userId, password));
+    }
+    return accounts;
+  }
+
+  Task newTask() {
+    String title = VERBS[random.nextInt(VERBS.length)] + " " + NOUNS[random.nextInt(NOUNS.length)];
+    String description = randomDescription();
+    String status = STATUSES[weighted(50, 20, 30)];
+    LocalDateTime createdAt = EPOCH.plusMinutes(random.nextInt(60 * 24 * 365));
+    return new Task(title, description, status, createdAt, randomDueDate(createdAt),
+        randomPriority(), randomTags());
+  }
+
+  int randomTaskCount(int mean) {
+    // Lognormal with the requested mean: most users have a handful of tasks,
+    // a few have several times the mean. Capped so one user can't dominate.
+    double sigma = 1.0;
+    double factor = Math.exp(sigma * random.nextGaussian() - sigma * sigma / 2);
+    return (int) Math.round(Math.min(factor, 10.0) * mean);
+  }
+
+  int randomPriority() {
+    // Most tasks sit at the default priority, few are critical.
+    return weighted(10, 25, 45, 20) + 1;
+  }
+
+  LinkedList<String> randomTags() {
+    LinkedList<String> tags = new LinkedList<>();
+    int count = weighted(20, 40, 25, 10, 5);
+    while (tags.size() < count) {
+      String tag = TAGS[zipf(TAGS.length)];
+      if (!tags.contains(tag)) {
+        tags.add(tag);
+      }
+    }
+    return tags;
+  }
+
+  LocalDateTime randomDueDate(LocalDateTime createdAt) {
+    // ~15% of tasks have no due date; the rest are mostly due within two weeks
+    // with a long tail stretching out to a few months.
+    if (random.nextInt(100) < 15) {
+      return null;
+    }
+    double days = -Math.log(1 - random.nextDouble()) * 7;
+    return createdAt.plusMinutes((long) (Math.min(days, 120) * 24 * 60));
+  }
+
+  void touch(Task task) {
+    task.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+    task.setPriority(randomPriority());
+    task.setDescription(randomDescription());
+  }
+
+  private String randomDescription() {
+    // Descriptions range from empty to a few sentences to keep file sizes realistic.
+    int sentences = weighted(30, 40, 20, 10);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < sentences; i++) {
+      if (sb.length() > 0) {
+        sb.append(' ');
+      }
+      sb.append(VERBS[random.nextInt(VERBS.length)]).append(" the ")
+          .append(NOUNS[random.nextInt(NOUNS.length)]).append(" before the ")
+          .append(NOUNS[random.nextInt(NOUNS.length)]).append('.');
+    }
+    return sb.toString();
+  }
+
+  private int zipf(int n) {
+    double total = 0;
+    for (int i = 1; i <= n; i++) {
+      total += 1.0 / i;
+    }
+    double r = random.nextDouble() * total;
+    for (int i = 1; i <= n; i++) {
+      r -= 1.0 / i;
+      if (r <= 0) {
+        return i - 1;
+      }
+    }
+    return n - 1;
+  }
+
+  private int weighted(int... weights) {
+    int total = 0;
+    for (int w : weights) {
+      total += w;
+    }
+    int r = random.nextInt(total);
+    for (int i = 0; i < weights.length; i++) {
+      r -= weights[i];
+      if (r < 0) {
+        return i;
+      }
+    }
+    return weights.length - 1;
+  }
+}
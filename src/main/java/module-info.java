@@ -11,6 +11,8 @@ module com.example {
 
   // Java standard APIs you use
   requires java.logging;
+  requires java.management; // GC stats for the soak test
+  requires jdk.management; // per-pause GC notifications
   requires java.base; // implied, but you can list it explicitly
 
   // Allow JavaFX FXML loader to reflectively access your UI controllers
@@ -0,0 +1,109 @@
+package com.example.workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void emptyHistogramReportsZero() {
+    LatencyHistogram h = new LatencyHistogram();
+    assertEquals(0, h.count());
+    assertEquals(0, h.max());
+    assertEquals(0, h.percentile(50));
+  }
+
+  @Test
+  void valuesBelowSixteenAreExact() {
+    LatencyHistogram h = new LatencyHistogram();
+    for (long v = 0; v < 16; v++) {
+      h.record(v);
+    }
+    for (int k = 0; k < 16; k++) {
+      assertEquals(k, h.percentile(100.0 * (k + 1) / 16));
+    }
+    assertEquals(15, h.max());
+  }
+
+  @Test
+  void negativeValuesAreRecordedAsZero() {
+    LatencyHistogram h = new LatencyHistogram();
+    h.record(-5);
+    assertEquals(1, h.count());
+    assertEquals(0, h.percentile(100));
+  }
+
+  @Test
+  void percentileReturnsUpperBoundOfBucket() {
+    // {value, upper bound of the bucket it lands in}
+    long[][] cases = {
+        { 16, 16 }, { 31, 31 }, { 32, 33 }, { 33, 33 }, { 34, 35 },
+        { 63, 63 }, { 64, 67 }, { 1023, 1023 }, { 1024, 1087 },
+    };
+    for (long[] c : cases) {
+      LatencyHistogram h = new LatencyHistogram();
+      h.record(c[0]);
+      // A larger value keeps the result from being clamped to max().
+      h.record(1_000_000);
+      assertEquals(c[1], h.percentile(50), "bucket upper bound for " + c[0]);
+    }
+  }
+
+  @Test
+  void handlesLongMaxValue() {
+    LatencyHistogram h = new LatencyHistogram();
+    h.record(1);
+    h.record(Long.MAX_VALUE);
+    assertEquals(2, h.count());
+    assertEquals(Long.MAX_VALUE, h.max());
+    assertEquals(1, h.percentile(50));
+    assertEquals(Long.MAX_VALUE, h.percentile(100));
+  }
+
+  @Test
+  void mergeMatchesRecordingEverythingInOne() {
+    Random random = new Random(1);
+    LatencyHistogram a = new LatencyHistogram();
+    LatencyHistogram b = new LatencyHistogram();
+    LatencyHistogram combined = new LatencyHistogram();
+    for (int i = 0; i < 10_000; i++) {
+      long v = (long) (random.nextDouble() * 5_000_000);
+      (i % 3 == 0 ? a : b).record(v);
+      combined.record(v);
+    }
+
+    a.merge(b);
+
+    assertEquals(combined.count(), a.count());
+    assertEquals(combined.max(), a.max());
+    for (double p : new double[] { 1, 50, 90, 99, 99.9, 100 }) {
+      assertEquals(combined.percentile(p), a.percentile(p), "p" + p);
+    }
+  }
+
+  @Test
+  void percentilesStayWithinSixPercentOfExact() {
+    Random random = new Random(42);
+    int n = 100_000;
+    long[] values = new long[n];
+    LatencyHistogram h = new LatencyHistogram();
+    for (int i = 0; i < n; i++) {
+      // Spread over several orders of magnitude, like real latencies.
+      values[i] = (long) Math.exp(random.nextDouble() * 20);
+      h.record(values[i]);
+    }
+    Arrays.sort(values);
+
+    for (double p : new double[] { 1, 10, 50, 90, 99, 99.9, 100 }) {
+      long exact = values[(int) Math.ceil(n * p / 100.0) - 1];
+      long reported = h.percentile(p);
+      assertTrue(reported >= exact, "p" + p + " below exact: " + reported + " < " + exact);
+      assertTrue(reported <= exact + exact / 16, "p" + p + " too high: " + reported + " vs " + exact);
+    }
+  }
+}